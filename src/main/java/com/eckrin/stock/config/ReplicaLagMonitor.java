@@ -0,0 +1,65 @@
+package com.eckrin.stock.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * replica의 복제 지연(Seconds_Behind_Source)을 주기적으로 확인한다.
+ * 첫 확인 전이거나, 지연이 임계치를 넘거나, 복제가 멈췄거나, 조회에 실패하면 lagging으로 표시하여 읽기를 primary로 돌린다.
+ * 복제 설정이 없는 인스턴스도 lagging으로 보며, allowStandalone(로컬 테스트용)일 때만 지연 0으로 취급한다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagSeconds;
+    private final boolean allowStandalone;
+
+    private volatile boolean lagging = true;
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, long maxLagSeconds, boolean allowStandalone) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLagSeconds = maxLagSeconds;
+        this.allowStandalone = allowStandalone;
+    }
+
+    public boolean isLagging() {
+        return lagging;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        try {
+            // MySQL 8.0.22 이상, replica 계정에 REPLICATION CLIENT 권한 필요
+            List<Long> lags = replicaJdbcTemplate.query("show replica status",
+                    (rs, rowNum) -> rs.getObject("Seconds_Behind_Source", Long.class));
+
+            if(lags.isEmpty()) { // 복제 설정이 없는 인스턴스
+                updateLagging(!allowStandalone, "replica status is empty (replication not configured)");
+                return;
+            }
+
+            Long lag = lags.get(0);
+            if(lag == null) { // 복제 스레드가 멈춘 상태
+                updateLagging(true, "replication is not running");
+                return;
+            }
+            updateLagging(lag > maxLagSeconds, "replica lag " + lag + "s (max " + maxLagSeconds + "s)");
+        } catch (Exception e) {
+            log.warn("replica lag check failed, routing reads to primary", e);
+            lagging = true;
+        }
+    }
+
+    private void updateLagging(boolean lagging, String reason) {
+        if(lagging && !this.lagging) {
+            log.warn("routing reads to primary: {}", reason);
+        } else if(!lagging && this.lagging) {
+            log.info("routing reads to replica: {}", reason);
+        }
+        this.lagging = lagging;
+    }
+}
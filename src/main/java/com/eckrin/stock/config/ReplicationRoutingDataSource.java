@@ -0,0 +1,29 @@
+package com.eckrin.stock.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * readOnly 트랜잭션은 replica로, 그 외(락/재고 감소)는 primary로 보낸다.
+ * replica 지연이 임계치를 넘으면 readOnly 트랜잭션도 primary로 보낸다.
+ * 트랜잭션 시작 시점의 readOnly 여부를 알 수 있도록 LazyConnectionDataSourceProxy로 감싸서 사용해야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReplicationRoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicaLagMonitor.isLagging()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,69 @@
+package com.eckrin.stock.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 처리된 멱등키와 그 결과. 재고 감소와 같은 트랜잭션에서 저장되므로, 기록이 있으면 감소도 커밋된 것이다.
+ * 키가 PK이므로 동시에 같은 키가 들어오면 늦게 커밋하는 쪽이 unique 제약으로 롤백된다.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    private String idempotencyKey;
+
+    private Long stockId;
+
+    private Long quantity;
+
+    private Long remainingQuantity;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean isNew = true; // save시 merge(select 후 update)가 아닌 insert가 되도록
+
+    public IdempotencyRecord(String idempotencyKey, Long stockId, Long quantity, Long remainingQuantity) {
+        this.idempotencyKey = idempotencyKey;
+        this.stockId = stockId;
+        this.quantity = quantity;
+        this.remainingQuantity = remainingQuantity;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String getId() {
+        return this.idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return this.isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public Long getStockId() {
+        return this.stockId;
+    }
+
+    public Long getQuantity() {
+        return this.quantity;
+    }
+
+    public Long getRemainingQuantity() {
+        return this.remainingQuantity;
+    }
+}
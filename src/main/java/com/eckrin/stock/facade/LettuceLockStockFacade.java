@@ -1,5 +1,7 @@
 package com.eckrin.stock.facade;
 
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.repository.RedisLockRepository;
 import com.eckrin.stock.service.StockService;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +13,22 @@ public class LettuceLockStockFacade {
 
     private final RedisLockRepository redisLockRepository;
     private final StockService stockService;
+    private final IdempotencyService idempotencyService;
+
+    // 이미 처리된 요청은 락을 잡지 않고 최초 결과를 반환
+    public DecreaseResult decrease(Long key, Long quantity, String idempotencyKey) throws InterruptedException {
+        return idempotencyService.execute(idempotencyKey, () -> {
+            while(!redisLockRepository.lock(key)) {
+                Thread.sleep(100);
+            }
+
+            try {
+                return stockService.decreaseWithTx(key, quantity, idempotencyKey);
+            } finally {
+                redisLockRepository.unlock(key); // 여기서 실패해도 감소는 기록과 함께 커밋되어 재시도는 중복으로 처리된다
+            }
+        });
+    }
 
     public void decrease(Long key, Long quantity) throws InterruptedException {
         while(!redisLockRepository.lock(key)) { // spinlock 직접 구현 (락을 얻을때까지 sleep 반복)
@@ -1,10 +1,13 @@
 package com.eckrin.stock.facade;
 
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.repository.LockRepository;
 import com.eckrin.stock.service.StockService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 @RequiredArgsConstructor
@@ -12,6 +15,20 @@ public class NamedLockStockFacade {
 
     private final LockRepository lockRepository;
     private final StockService stockService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+
+    // 트랜잭션을 execute 안에서 열어야, 중복 키 충돌로 롤백된 뒤 먼저 커밋된 결과를 조회할 수 있다
+    public DecreaseResult decrease(Long id, Long quantity, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, () -> transactionTemplate.execute(status -> {
+            try {
+                lockRepository.getLock(id.toString());
+                return stockService.decreaseWithTx(id, quantity, idempotencyKey); // 같은 트랜잭션에 참여
+            } finally {
+                lockRepository.releaseLock(id.toString());
+            }
+        }));
+    }
 
     @Transactional
     public void decrease(Long id, Long quantity) {
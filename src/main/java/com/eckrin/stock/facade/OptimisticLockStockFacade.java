@@ -1,7 +1,11 @@
 package com.eckrin.stock.facade;
 
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.service.OptimisticLockStockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -9,6 +13,20 @@ import org.springframework.stereotype.Component;
 public class OptimisticLockStockFacade {
 
     private final OptimisticLockStockService optimisticLockStockService;
+    private final IdempotencyService idempotencyService;
+
+    // 버전/중복 키 충돌만 재시도 (재시도시 기록된 최초 결과를 받는다), 재고 부족 등은 그대로 실패
+    public DecreaseResult decrease(Long id, Long quantity, String idempotencyKey) throws InterruptedException {
+        return idempotencyService.execute(idempotencyKey, () -> {
+            while(true) {
+                try {
+                    return optimisticLockStockService.decrease(id, quantity, idempotencyKey);
+                } catch(ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    Thread.sleep(50);
+                }
+            }
+        });
+    }
 
     // update 쿼리 실패를 대비한 facade 클래스
     public void decrease(Long id, Long quantity) throws InterruptedException {
@@ -1,6 +1,7 @@
 package com.eckrin.stock.facade;
 
-import com.eckrin.stock.repository.RedisLockRepository;
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.service.StockService;
 import lombok.RequiredArgsConstructor;
 import org.redisson.api.RLock;
@@ -15,6 +16,26 @@ public class RedissonLockStockFacade {
 
     private final RedissonClient redissonClient;
     private final StockService stockService;
+    private final IdempotencyService idempotencyService;
+
+    // 이미 처리된 요청은 락을 잡지 않고 최초 결과를 반환
+    public DecreaseResult decrease(Long id, Long quantity, String idempotencyKey) throws InterruptedException {
+        return idempotencyService.execute(idempotencyKey, () -> {
+            RLock lock = redissonClient.getLock(id.toString());
+
+            if(!lock.tryLock(10, 1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("lock 획득 실패");
+            }
+
+            try {
+                return stockService.decreaseWithTx(id, quantity, idempotencyKey);
+            } finally {
+                if(lock.isHeldByCurrentThread()) { // lease(1초)가 지나 이미 풀린 경우 unlock 예외 방지
+                    lock.unlock();
+                }
+            }
+        });
+    }
 
     public void decrease(Long id, Long quantity) throws InterruptedException {
         RLock lock = redissonClient.getLock(id.toString());
@@ -1,5 +1,7 @@
 package com.eckrin.stock.facade;
 
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.service.StockService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -9,6 +11,15 @@ import org.springframework.stereotype.Component;
 public class SynchronizedStockFacade {
 
     private final StockService stockService;
+    private final IdempotencyService idempotencyService;
+
+    public DecreaseResult decrease(Long id, Long quantity, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, () -> {
+            synchronized(this) {
+                return stockService.decreaseWithTx(id, quantity, idempotencyKey);
+            }
+        });
+    }
 
     public synchronized void decrease(Long id, Long quantity) {
         stockService.decreaseWithTx(id, quantity);
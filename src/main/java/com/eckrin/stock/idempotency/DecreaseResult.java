@@ -0,0 +1,40 @@
+package com.eckrin.stock.idempotency;
+
+/**
+ * 멱등키로 처리된 재고 감소의 결과.
+ * duplicate가 true이면 이번 호출에서는 감소하지 않았고, 나머지 값은 최초 요청이 커밋한 결과이다.
+ */
+public class DecreaseResult {
+
+    private final Long stockId;
+    private final Long quantity;
+    private final Long remainingQuantity;
+    private final boolean duplicate;
+
+    public DecreaseResult(Long stockId, Long quantity, Long remainingQuantity, boolean duplicate) {
+        this.stockId = stockId;
+        this.quantity = quantity;
+        this.remainingQuantity = remainingQuantity;
+        this.duplicate = duplicate;
+    }
+
+    public DecreaseResult asDuplicate() {
+        return new DecreaseResult(stockId, quantity, remainingQuantity, true);
+    }
+
+    public Long getStockId() {
+        return this.stockId;
+    }
+
+    public Long getQuantity() {
+        return this.quantity;
+    }
+
+    public Long getRemainingQuantity() {
+        return this.remainingQuantity;
+    }
+
+    public boolean isDuplicate() {
+        return this.duplicate;
+    }
+}
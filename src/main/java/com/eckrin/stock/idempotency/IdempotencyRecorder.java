@@ -0,0 +1,58 @@
+package com.eckrin.stock.idempotency;
+
+import com.eckrin.stock.domain.IdempotencyRecord;
+import com.eckrin.stock.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 재고 감소 트랜잭션 안에서 멱등키를 조회/기록한다.
+ * find, record는 반드시 감소와 같은 트랜잭션에서 호출되어야 한다. (MANDATORY)
+ */
+@Component
+public class IdempotencyRecorder {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final long ttlSeconds;
+
+    public IdempotencyRecorder(IdempotencyRecordRepository idempotencyRecordRepository,
+                               @Value("${stock.idempotency.ttl-seconds:3600}") long ttlSeconds) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<DecreaseResult> find(String idempotencyKey) {
+        return idempotencyRecordRepository.findById(idempotencyKey).map(this::toDuplicateResult);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public DecreaseResult record(String idempotencyKey, Long stockId, Long quantity, Long remainingQuantity) {
+        // flush로 중복 키를 커밋 전에 바로 감지
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(idempotencyKey, stockId, quantity, remainingQuantity));
+        return new DecreaseResult(stockId, quantity, remainingQuantity, false);
+    }
+
+    // 감소 트랜잭션 밖에서 이미 커밋된 결과를 조회
+    @Transactional
+    public Optional<DecreaseResult> findCommitted(String idempotencyKey) {
+        return idempotencyRecordRepository.findById(idempotencyKey).map(this::toDuplicateResult);
+    }
+
+    // TTL이 지난 기록을 지워 테이블 크기를 제한
+    @Scheduled(fixedDelayString = "${stock.idempotency.purge-interval-ms:60000}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusSeconds(ttlSeconds));
+    }
+
+    private DecreaseResult toDuplicateResult(IdempotencyRecord record) {
+        return new DecreaseResult(record.getStockId(), record.getQuantity(), record.getRemainingQuantity(), true);
+    }
+}
@@ -0,0 +1,134 @@
+package com.eckrin.stock.idempotency;
+
+import com.eckrin.stock.repository.RedisIdempotencyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 재시도된 재고 감소 요청이 두 번 반영되지 않도록 멱등키로 중복을 걸러낸다.
+ * 중복 여부의 기준은 감소와 같은 트랜잭션에 저장되는 IdempotencyRecord(DB)이고,
+ * JVM 로컬 캐시와 redis는 커밋된 결과를 락 없이 돌려주기 위한 read-through 캐시이다. (redis 장애시 DB로 판단)
+ * 멱등키를 받는 모든 감소 API는 이 클래스를 거친다.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final RedisIdempotencyRepository redisIdempotencyRepository;
+    private final IdempotencyRecorder idempotencyRecorder;
+    private final LocalIdempotencyCache localCache;
+    private final Duration ttl;
+
+    // facade -> service 처럼 같은 키로 중첩 호출되면 바깥 호출만 캐시 조회/충돌 처리를 한다
+    private final ThreadLocal<String> executingKey = new ThreadLocal<>();
+
+    public IdempotencyService(RedisIdempotencyRepository redisIdempotencyRepository,
+                              IdempotencyRecorder idempotencyRecorder,
+                              @Value("${stock.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                              @Value("${stock.idempotency.local-max-size:100000}") long localMaxSize) {
+        this.redisIdempotencyRepository = redisIdempotencyRepository;
+        this.idempotencyRecorder = idempotencyRecorder;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.localCache = new LocalIdempotencyCache(localMaxSize, ttl);
+    }
+
+    @FunctionalInterface
+    public interface IdempotentAction<E extends Exception> {
+        // 감소와 멱등키 기록을 한 트랜잭션에서 수행(커밋까지)하고 그 결과를 반환
+        DecreaseResult run() throws E;
+    }
+
+    /**
+     * @return 이번 호출에서 감소했으면 duplicate=false, 이미 처리된 키이면 최초 결과를 duplicate=true로 반환
+     */
+    public <E extends Exception> DecreaseResult execute(String idempotencyKey, IdempotentAction<E> action) throws E {
+        if(idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new IllegalArgumentException("멱등키(idempotencyKey)는 비어 있을 수 없습니다");
+        }
+
+        if(idempotencyKey.equals(executingKey.get())) { // 중첩 호출
+            return action.run();
+        }
+
+        DecreaseResult cached = findCached(idempotencyKey);
+        if(cached != null) { // 락, DB 접근 없이 반환
+            return cached.asDuplicate();
+        }
+
+        DecreaseResult result;
+        executingKey.set(idempotencyKey);
+        try {
+            result = action.run();
+        } catch (RuntimeException e) {
+            // 같은 키가 동시에 처리되어 unique 제약/버전 충돌/데드락으로 롤백된 경우, 먼저 커밋된 결과를 반환
+            result = findCommittedAfterFailure(idempotencyKey, e);
+        } finally {
+            executingKey.remove();
+        }
+
+        cacheAfterCommit(idempotencyKey, result);
+        return result;
+    }
+
+    private DecreaseResult findCommittedAfterFailure(String idempotencyKey, RuntimeException e) {
+        if(TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw e; // 호출자의 트랜잭션 안에서는 커밋된 결과를 볼 수 없으므로 재시도에 맡긴다
+        }
+
+        Optional<DecreaseResult> committed = idempotencyRecorder.findCommitted(idempotencyKey);
+        if(committed.isEmpty()) {
+            throw e;
+        }
+        return committed.get();
+    }
+
+    private DecreaseResult findCached(String idempotencyKey) {
+        DecreaseResult result = localCache.get(idempotencyKey);
+        if(result != null) {
+            return result;
+        }
+
+        try {
+            result = redisIdempotencyRepository.find(idempotencyKey); // 다른 노드에서 처리된 키
+        } catch (RuntimeException e) {
+            log.warn("idempotency cache lookup failed, falling back to DB: key={}", idempotencyKey, e);
+            return null;
+        }
+
+        if(result != null) {
+            localCache.put(idempotencyKey, result);
+        }
+        return result;
+    }
+
+    private void cacheAfterCommit(String idempotencyKey, DecreaseResult result) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(idempotencyKey, result);
+            return;
+        }
+
+        // 바깥 트랜잭션이 있으면 커밋이 확정된 뒤에만 캐시 (롤백되면 기록도 사라지므로)
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(idempotencyKey, result);
+            }
+        });
+    }
+
+    private void cache(String idempotencyKey, DecreaseResult result) {
+        localCache.put(idempotencyKey, result);
+        try {
+            redisIdempotencyRepository.save(idempotencyKey, result, ttl);
+        } catch (RuntimeException e) {
+            // 감소는 이미 커밋됨. 다른 노드의 재시도는 DB 기록으로 걸러진다
+            log.warn("idempotency cache write failed: key={}", idempotencyKey, e);
+        }
+    }
+}
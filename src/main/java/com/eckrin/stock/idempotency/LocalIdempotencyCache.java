@@ -0,0 +1,41 @@
+package com.eckrin.stock.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * 처리 완료된 멱등키의 결과를 JVM 내에 보관하는 캐시.
+ * 최대 크기와 TTL(expireAfterWrite)로 제한되므로 키가 계속 유입되어도 메모리 사용량이 일정하다.
+ */
+class LocalIdempotencyCache {
+
+    private final Cache<String, DecreaseResult> cache;
+
+    LocalIdempotencyCache(long maxSize, Duration ttl) {
+        this(maxSize, ttl, Ticker.systemTicker());
+    }
+
+    LocalIdempotencyCache(long maxSize, Duration ttl, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    DecreaseResult get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(String key, DecreaseResult result) {
+        cache.put(key, result);
+    }
+
+    long size() {
+        cache.cleanUp(); // 대기중인 eviction을 반영
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,15 @@
+package com.eckrin.stock.repository;
+
+import com.eckrin.stock.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query(value = "delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
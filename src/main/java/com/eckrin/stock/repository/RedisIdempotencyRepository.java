@@ -0,0 +1,39 @@
+package com.eckrin.stock.repository;
+
+import com.eckrin.stock.idempotency.DecreaseResult;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// 다른 노드에서 처리된 멱등키 결과를 공유하기 위한 캐시 (원본은 DB의 IdempotencyRecord)
+@Component
+public class RedisIdempotencyRepository {
+
+    private RedisTemplate<String, String> redisTemplate;
+
+    public RedisIdempotencyRepository(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void save(String key, DecreaseResult result, Duration ttl) {
+        String value = result.getStockId() + ":" + result.getQuantity() + ":" + result.getRemainingQuantity();
+        redisTemplate
+                .opsForValue()
+                .set(generateKey(key), value, ttl);
+    }
+
+    public DecreaseResult find(String key) {
+        String value = redisTemplate.opsForValue().get(generateKey(key));
+        if(value == null) {
+            return null;
+        }
+
+        String[] parts = value.split(":");
+        return new DecreaseResult(Long.valueOf(parts[0]), Long.valueOf(parts[1]), Long.valueOf(parts[2]), true);
+    }
+
+    private String generateKey(String key) {
+        return "idem:" + key;
+    }
+}
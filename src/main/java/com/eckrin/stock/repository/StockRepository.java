@@ -5,9 +5,18 @@ import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 public interface StockRepository extends JpaRepository<Stock, Long> {
 
+    // 트랜잭션 밖에서 조회 후 저장하는 경로(decreaseWithoutTx, decreaseWithRetry -> decreaseWithSerializable)용.
+    // 기본 findById는 단독 호출시 readOnly 트랜잭션이 되어 replica로 라우팅되므로 primary로 고정한다.
+    @Transactional
+    @Query(value = "select s from Stock s where s.id = :id")
+    Optional<Stock> findByIdOnPrimary(Long id);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query(value = "select s from Stock s where s.id = :id")
     Stock findByIdWithPessimisticLock(Long id);
@@ -15,4 +24,7 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
     @Lock(LockModeType.OPTIMISTIC)
     @Query(value = "select s from Stock s where s.id = :id")
     Stock findByIdWithOptimisticLock(Long id);
+
+    @Query(value = "select s.quantity from Stock s where s.id = :id")
+    Optional<Long> findQuantityById(Long id);
 }
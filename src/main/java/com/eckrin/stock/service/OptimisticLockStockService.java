@@ -1,16 +1,25 @@
 package com.eckrin.stock.service;
 
 import com.eckrin.stock.domain.Stock;
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyRecorder;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class OptimisticLockStockService {
 
     private final StockRepository stockRepository;
+    private final IdempotencyRecorder idempotencyRecorder;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public void decrease(Long id, Long quantity) {
@@ -21,4 +30,21 @@ public class OptimisticLockStockService {
 
         stockRepository.saveAndFlush(stock);
     }
+
+    public DecreaseResult decrease(Long id, Long quantity, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, () -> transactionTemplate.execute(status -> {
+            Optional<DecreaseResult> recorded = idempotencyRecorder.find(idempotencyKey);
+            if(recorded.isPresent()) {
+                return recorded.get();
+            }
+
+            // OptimisticLock을 활용하여 데이터 조회
+            Stock stock = stockRepository.findByIdWithOptimisticLock(id);
+
+            stock.decrease(quantity);
+
+            stockRepository.saveAndFlush(stock);
+            return idempotencyRecorder.record(idempotencyKey, id, quantity, stock.getQuantity());
+        }));
+    }
 }
@@ -1,16 +1,25 @@
 package com.eckrin.stock.service;
 
 import com.eckrin.stock.domain.Stock;
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyRecorder;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class PessimisticLockStockService {
 
     private final StockRepository stockRepository;
+    private final IdempotencyRecorder idempotencyRecorder;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public void decrease(Long id, Long quantity) {
@@ -21,4 +30,21 @@ public class PessimisticLockStockService {
 
         stockRepository.saveAndFlush(stock);
     }
+
+    public DecreaseResult decrease(Long id, Long quantity, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, () -> transactionTemplate.execute(status -> {
+            // PessimisticLock을 먼저 얻은 뒤 기록을 조회해야 앞선 요청이 커밋한 기록이 보인다
+            Stock stock = stockRepository.findByIdWithPessimisticLock(id);
+
+            Optional<DecreaseResult> recorded = idempotencyRecorder.find(idempotencyKey);
+            if(recorded.isPresent()) {
+                return recorded.get();
+            }
+
+            stock.decrease(quantity);
+
+            stockRepository.saveAndFlush(stock);
+            return idempotencyRecorder.record(idempotencyKey, id, quantity, stock.getQuantity());
+        }));
+    }
 }
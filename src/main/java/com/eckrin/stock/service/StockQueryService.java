@@ -0,0 +1,22 @@
+package com.eckrin.stock.service;
+
+import com.eckrin.stock.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true) // replica로 라우팅 (replica 지연 시 primary)
+public class StockQueryService {
+
+    private final StockRepository stockRepository;
+
+    public Long getQuantity(Long id) {
+        return stockRepository.findQuantityById(id).orElseThrow();
+    }
+
+    public boolean isAvailable(Long id, Long quantity) {
+        return getQuantity(id) >= quantity;
+    }
+}
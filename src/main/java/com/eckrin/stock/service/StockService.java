@@ -1,6 +1,9 @@
 package com.eckrin.stock.service;
 
 import com.eckrin.stock.domain.Stock;
+import com.eckrin.stock.idempotency.DecreaseResult;
+import com.eckrin.stock.idempotency.IdempotencyRecorder;
+import com.eckrin.stock.idempotency.IdempotencyService;
 import com.eckrin.stock.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.OptimisticLockingFailureException;
@@ -8,21 +11,36 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class StockService {
 
     private final StockRepository stockRepository;
+    private final IdempotencyRecorder idempotencyRecorder;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public void decreaseWithSerializable(Long id, Long quantity) {
-        Stock stock = stockRepository.findById(id).orElseThrow();
+        // decreaseWithRetry에서는 self-invocation이라 트랜잭션 없이 호출되므로 primary로 고정
+        Stock stock = stockRepository.findByIdOnPrimary(id).orElseThrow();
         stock.decrease(quantity);
 
         stockRepository.saveAndFlush(stock);
     }
 
+    public DecreaseResult decreaseWithSerializable(Long id, Long quantity, String idempotencyKey) {
+        TransactionTemplate serializable = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        serializable.setIsolationLevel(Isolation.SERIALIZABLE.value());
+
+        return idempotencyService.execute(idempotencyKey,
+                () -> serializable.execute(status -> decreaseAndRecord(id, quantity, idempotencyKey)));
+    }
+
     public void decreaseWithRetry(Long id, Long quantity) {
         int maxRetries = 300;
         int retryCount = 0;
@@ -43,7 +61,7 @@ public class StockService {
 
     public synchronized void decreaseWithoutTx(Long id, Long quantity) {
         // Stock 조회, 재고 감소후 갱신값 저장
-        Stock stock = stockRepository.findById(id).orElseThrow();
+        Stock stock = stockRepository.findByIdOnPrimary(id).orElseThrow();
         stock.decrease(quantity);
 
         stockRepository.saveAndFlush(stock);
@@ -58,6 +76,12 @@ public class StockService {
         stockRepository.saveAndFlush(stock);
     }
 
+    // 멱등키 기록을 감소와 같은 트랜잭션에서 수행 (self-invocation이라 TransactionTemplate 사용)
+    public DecreaseResult decreaseWithTx(Long id, Long quantity, String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey,
+                () -> transactionTemplate.execute(status -> decreaseAndRecord(id, quantity, idempotencyKey)));
+    }
+
     @Transactional(propagation = Propagation.REQUIRES_NEW) // 부모 트랜잭션과 별도 Datasource 사용
     public void decreaseWithTxRequiresNew(Long id, Long quantity) {
         Stock stock = stockRepository.findById(id).orElseThrow();
@@ -65,4 +89,17 @@ public class StockService {
 
         stockRepository.saveAndFlush(stock);
     }
+
+    private DecreaseResult decreaseAndRecord(Long id, Long quantity, String idempotencyKey) {
+        Optional<DecreaseResult> recorded = idempotencyRecorder.find(idempotencyKey);
+        if(recorded.isPresent()) {
+            return recorded.get();
+        }
+
+        Stock stock = stockRepository.findById(id).orElseThrow();
+        stock.decrease(quantity);
+
+        stockRepository.saveAndFlush(stock);
+        return idempotencyRecorder.record(idempotencyKey, id, quantity, stock.getQuantity());
+    }
 }
@@ -0,0 +1,96 @@
+package com.eckrin.stock.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+class ReplicaLagMonitorTest {
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("첫 확인 전에는 lagging")
+    public void 초기_lagging() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(jdbcTemplate, 5, false);
+
+        Assertions.assertThat(monitor.isLagging()).isTrue();
+    }
+
+    @Test
+    @DisplayName("지연이 임계치 이하이면 replica 사용")
+    public void 지연_임계치_이하() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(jdbcTemplate, 5, false);
+        givenReplicaStatus(5L);
+
+        monitor.check();
+
+        Assertions.assertThat(monitor.isLagging()).isFalse();
+    }
+
+    @Test
+    @DisplayName("지연이 임계치를 넘으면 lagging, 다시 줄어들면 replica로 복귀")
+    public void 지연_초과_후_복귀() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(jdbcTemplate, 5, false);
+
+        givenReplicaStatus(6L);
+        monitor.check();
+        Assertions.assertThat(monitor.isLagging()).isTrue();
+
+        givenReplicaStatus(1L);
+        monitor.check();
+        Assertions.assertThat(monitor.isLagging()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Seconds_Behind_Source가 null(복제 중단)이면 lagging")
+    public void 복제_중단() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(jdbcTemplate, 5, false);
+        givenReplicaStatus(0L);
+        monitor.check();
+
+        givenReplicaStatus((Long) null);
+        monitor.check();
+
+        Assertions.assertThat(monitor.isLagging()).isTrue();
+    }
+
+    @Test
+    @DisplayName("복제 설정이 없는 인스턴스는 lagging, allowStandalone일 때만 replica 사용")
+    public void 복제_미설정() {
+        givenReplicaStatus();
+
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(jdbcTemplate, 5, false);
+        monitor.check();
+        Assertions.assertThat(monitor.isLagging()).isTrue();
+
+        ReplicaLagMonitor standalone = new ReplicaLagMonitor(jdbcTemplate, 5, true);
+        standalone.check();
+        Assertions.assertThat(standalone.isLagging()).isFalse();
+    }
+
+    @Test
+    @DisplayName("조회에 실패하면 lagging")
+    public void 조회_실패() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(jdbcTemplate, 5, false);
+        givenReplicaStatus(0L);
+        monitor.check();
+
+        Mockito.when(jdbcTemplate.query(Mockito.anyString(), Mockito.<RowMapper<Long>>any()))
+                .thenThrow(new DataAccessResourceFailureException("access denied"));
+        monitor.check();
+
+        Assertions.assertThat(monitor.isLagging()).isTrue();
+    }
+
+    private void givenReplicaStatus(Long... secondsBehindSource) {
+        List<Long> rows = Arrays.asList(secondsBehindSource);
+        Mockito.when(jdbcTemplate.query(Mockito.anyString(), Mockito.<RowMapper<Long>>any())).thenReturn(rows);
+    }
+}
@@ -0,0 +1,45 @@
+package com.eckrin.stock.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicationRoutingDataSourceTest {
+
+    private final ReplicaLagMonitor replicaLagMonitor = Mockito.mock(ReplicaLagMonitor.class);
+    private final ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(replicaLagMonitor);
+
+    @AfterEach
+    public void after() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 replica로")
+    public void readOnly_replica() {
+        Mockito.when(replicaLagMonitor.isLagging()).thenReturn(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReplicationRoutingDataSource.REPLICA);
+    }
+
+    @Test
+    @DisplayName("replica 지연시 readOnly 트랜잭션도 primary로")
+    public void readOnly_지연_primary() {
+        Mockito.when(replicaLagMonitor.isLagging()).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReplicationRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션은 항상 primary로")
+    public void 쓰기_primary() {
+        Mockito.when(replicaLagMonitor.isLagging()).thenReturn(false);
+
+        Assertions.assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReplicationRoutingDataSource.PRIMARY);
+    }
+}
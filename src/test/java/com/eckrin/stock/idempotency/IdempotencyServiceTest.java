@@ -0,0 +1,196 @@
+package com.eckrin.stock.idempotency;
+
+import com.eckrin.stock.domain.IdempotencyRecord;
+import com.eckrin.stock.domain.Stock;
+import com.eckrin.stock.facade.LettuceLockStockFacade;
+import com.eckrin.stock.facade.NamedLockStockFacade;
+import com.eckrin.stock.facade.OptimisticLockStockFacade;
+import com.eckrin.stock.facade.RedissonLockStockFacade;
+import com.eckrin.stock.repository.IdempotencyRecordRepository;
+import com.eckrin.stock.repository.RedisIdempotencyRepository;
+import com.eckrin.stock.repository.StockRepository;
+import com.eckrin.stock.service.PessimisticLockStockService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    @Autowired
+    private StockRepository stockRepository;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    private RedisIdempotencyRepository redisIdempotencyRepository;
+    @Autowired
+    private LettuceLockStockFacade lettuceLockStockFacade;
+    @Autowired
+    private RedissonLockStockFacade redissonLockStockFacade;
+    @Autowired
+    private NamedLockStockFacade namedLockStockFacade;
+    @Autowired
+    private OptimisticLockStockFacade optimisticLockStockFacade;
+    @Autowired
+    private PessimisticLockStockService pessimisticLockStockService;
+
+    private String idempotencyKey;
+
+    @BeforeEach
+    public void init() {
+        stockRepository.saveAndFlush(new Stock(1L, 1L, 100L));
+        idempotencyKey = UUID.randomUUID().toString(); // redis에 남은 이전 키와 겹치지 않도록
+    }
+
+    @AfterEach
+    public void after() {
+        stockRepository.deleteAllInBatch();
+        idempotencyRecordRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("같은 멱등키 동시 요청은 한 번만 감소 (lettuce)")
+    public void 동시_중복요청_lettuce() throws InterruptedException {
+        decreaseConcurrently(() -> lettuceLockStockFacade.decrease(1L, 1L, idempotencyKey));
+
+        assertQuantity(99L);
+    }
+
+    @Test
+    @DisplayName("같은 멱등키 동시 요청은 한 번만 감소 (redisson)")
+    public void 동시_중복요청_redisson() throws InterruptedException {
+        decreaseConcurrently(() -> redissonLockStockFacade.decrease(1L, 1L, idempotencyKey));
+
+        assertQuantity(99L);
+    }
+
+    @Test
+    @DisplayName("같은 멱등키 동시 요청은 한 번만 감소하고 나머지는 최초 결과를 받음 (pessimistic lock)")
+    public void 동시_중복요청_비관락() throws InterruptedException {
+        Queue<DecreaseResult> results = decreaseConcurrently(() -> pessimisticLockStockService.decrease(1L, 1L, idempotencyKey));
+
+        assertOneAppliedRestDuplicate(results);
+        assertQuantity(99L);
+    }
+
+    @Test
+    @DisplayName("같은 멱등키 동시 요청은 한 번만 감소하고 나머지는 최초 결과를 받음 (named lock)")
+    public void 동시_중복요청_네임드락() throws InterruptedException {
+        Queue<DecreaseResult> results = decreaseConcurrently(() -> namedLockStockFacade.decrease(1L, 1L, idempotencyKey));
+
+        assertOneAppliedRestDuplicate(results);
+        assertQuantity(99L);
+    }
+
+    @Test
+    @DisplayName("재고 부족은 재시도하지 않고 실패 (optimistic lock)")
+    public void 재고부족_낙관락() {
+        Assertions.assertThatThrownBy(() -> optimisticLockStockFacade.decrease(1L, 200L, idempotencyKey))
+                .isInstanceOf(RuntimeException.class);
+
+        assertQuantity(100L);
+    }
+
+    @Test
+    @DisplayName("멱등키가 없으면 IllegalArgumentException")
+    public void 멱등키_누락() {
+        Assertions.assertThatThrownBy(() -> pessimisticLockStockService.decrease(1L, 1L, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("중복 요청은 최초 결과를 반환")
+    public void 중복요청_최초결과() throws InterruptedException {
+        DecreaseResult first = redissonLockStockFacade.decrease(1L, 3L, idempotencyKey);
+        DecreaseResult retry = redissonLockStockFacade.decrease(1L, 3L, idempotencyKey);
+
+        Assertions.assertThat(first.isDuplicate()).isFalse();
+        Assertions.assertThat(retry.isDuplicate()).isTrue();
+        Assertions.assertThat(retry.getRemainingQuantity()).isEqualTo(97L);
+        assertQuantity(97L);
+    }
+
+    @Test
+    @DisplayName("로컬 캐시에 없어도 redis에 기록된 키는 감소하지 않음 (다른 노드에서 처리)")
+    public void 다른노드_처리_redis() throws InterruptedException {
+        redisIdempotencyRepository.save(idempotencyKey, new DecreaseResult(1L, 1L, 42L, false), Duration.ofMinutes(1));
+
+        DecreaseResult result = lettuceLockStockFacade.decrease(1L, 1L, idempotencyKey);
+
+        Assertions.assertThat(result.isDuplicate()).isTrue();
+        Assertions.assertThat(result.getRemainingQuantity()).isEqualTo(42L);
+        assertQuantity(100L);
+    }
+
+    @Test
+    @DisplayName("캐시에 없어도 DB에 기록된 키는 감소하지 않음")
+    public void 캐시유실_DB기록() {
+        idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(idempotencyKey, 1L, 1L, 42L));
+
+        DecreaseResult result = pessimisticLockStockService.decrease(1L, 1L, idempotencyKey);
+
+        Assertions.assertThat(result.isDuplicate()).isTrue();
+        assertQuantity(100L);
+    }
+
+    @Test
+    @DisplayName("롤백된 요청은 기록/캐시되지 않아 재시도시 다시 처리 (named lock)")
+    public void 롤백후_재시도_네임드락() throws InterruptedException {
+        Assertions.assertThatThrownBy(() -> namedLockStockFacade.decrease(1L, 200L, idempotencyKey))
+                .isInstanceOf(RuntimeException.class);
+
+        Assertions.assertThat(idempotencyRecordRepository.existsById(idempotencyKey)).isFalse();
+        Assertions.assertThat(redisIdempotencyRepository.find(idempotencyKey)).isNull();
+
+        DecreaseResult retry = namedLockStockFacade.decrease(1L, 1L, idempotencyKey);
+
+        Assertions.assertThat(retry.isDuplicate()).isFalse();
+        Assertions.assertThat(redisIdempotencyRepository.find(idempotencyKey)).isNotNull(); // 커밋 후 캐시
+        assertQuantity(99L);
+    }
+
+    private Queue<DecreaseResult> decreaseConcurrently(IdempotencyService.IdempotentAction<InterruptedException> action) throws InterruptedException {
+        Queue<DecreaseResult> results = new ConcurrentLinkedQueue<>();
+        int threadCount = 30;
+        ExecutorService executorService = Executors.newFixedThreadPool(10);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        for(int i=0; i<threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    results.add(action.run());
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        return results;
+    }
+
+    private void assertOneAppliedRestDuplicate(Queue<DecreaseResult> results) {
+        Assertions.assertThat(results).hasSize(30); // 충돌로 실패한 요청 없이 모두 결과를 받음
+        Assertions.assertThat(results).filteredOn(result -> !result.isDuplicate()).hasSize(1);
+        Assertions.assertThat(results).allMatch(result -> result.getRemainingQuantity() == 99L);
+    }
+
+    private void assertQuantity(Long expected) {
+        Stock stock = stockRepository.findById(1L).orElseThrow();
+        Assertions.assertThat(stock.getQuantity()).isEqualTo(expected);
+    }
+}
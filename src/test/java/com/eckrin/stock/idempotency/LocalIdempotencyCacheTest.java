@@ -0,0 +1,39 @@
+package com.eckrin.stock.idempotency;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class LocalIdempotencyCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 키를 제거한다")
+    public void 크기_제한() {
+        LocalIdempotencyCache cache = new LocalIdempotencyCache(10, Duration.ofHours(1), nanos::get);
+
+        for(long i=0; i<1000; i++) {
+            cache.put("key-" + i, new DecreaseResult(1L, 1L, i, false));
+        }
+
+        Assertions.assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("TTL이 지난 키는 제거한다")
+    public void TTL_만료() {
+        LocalIdempotencyCache cache = new LocalIdempotencyCache(10, Duration.ofSeconds(60), nanos::get);
+        cache.put("key", new DecreaseResult(1L, 1L, 99L, false));
+
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        Assertions.assertThat(cache.get("key")).isNotNull();
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        Assertions.assertThat(cache.get("key")).isNull();
+        Assertions.assertThat(cache.size()).isEqualTo(0);
+    }
+}
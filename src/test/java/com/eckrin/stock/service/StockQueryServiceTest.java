@@ -0,0 +1,105 @@
+package com.eckrin.stock.service;
+
+import com.eckrin.stock.config.ReplicaLagMonitor;
+import com.eckrin.stock.domain.Stock;
+import com.eckrin.stock.repository.StockRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+// 로컬 DB 두 개(복제 설정 없음)를 primary/replica로 사용하므로 allow-standalone을 켠다
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.primary.jdbc-url=${spring.datasource.url}",
+        "spring.datasource.primary.username=${spring.datasource.username}",
+        "spring.datasource.primary.password=${spring.datasource.password}",
+        "spring.datasource.replica.jdbc-url=${REPLICA_URL:jdbc:mysql://localhost:3307/stock}",
+        "spring.datasource.replica.username=${spring.datasource.username}",
+        "spring.datasource.replica.password=${spring.datasource.password}",
+        "stock.datasource.replica.allow-standalone=true"
+})
+class StockQueryServiceTest {
+
+    @Autowired
+    private StockQueryService stockQueryService;
+    @Autowired
+    private StockRepository stockRepository;
+    @Autowired
+    private PessimisticLockStockService pessimisticLockStockService;
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    public void init() {
+        stockRepository.saveAndFlush(new Stock(1L, 1L, 100L));
+
+        // replica에는 primary와 다른 값을 넣어 어느 쪽에서 읽었는지 구분
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        replicaJdbcTemplate.execute("create table if not exists stock (id bigint not null, product_id bigint, quantity bigint, version bigint, primary key (id))");
+        replicaJdbcTemplate.update("delete from stock");
+        replicaJdbcTemplate.update("insert into stock (id, product_id, quantity, version) values (1, 1, 50, 0)");
+
+        replicaLagMonitor.check(); // 첫 확인 전에는 lagging(primary)으로 시작하므로
+    }
+
+    @AfterEach
+    public void after() {
+        stockRepository.deleteAllInBatch();
+        replicaJdbcTemplate.update("delete from stock");
+    }
+
+    @Test
+    @DisplayName("readOnly 조회는 replica에서 읽는다")
+    public void 조회_replica() {
+        Assertions.assertThat(stockQueryService.getQuantity(1L)).isEqualTo(50);
+        Assertions.assertThat(stockQueryService.isAvailable(1L, 60L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("재고 감소는 primary에서 처리한다")
+    public void 감소_primary() {
+        pessimisticLockStockService.decrease(1L, 1L);
+
+        Assertions.assertThat(primaryQuantity()).isEqualTo(99);
+        Assertions.assertThat(stockQueryService.getQuantity(1L)).isEqualTo(50); // replica는 그대로
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서 호출되는 decreaseWithRetry도 primary에서 읽고 쓴다")
+    public void 감소_재시도_primary() {
+        stockService.decreaseWithRetry(1L, 1L);
+
+        Assertions.assertThat(primaryQuantity()).isEqualTo(99); // replica(50)에서 읽었다면 49
+    }
+
+    @Test
+    @DisplayName("트랜잭션 없는 decreaseWithoutTx도 primary에서 읽고 쓴다")
+    public void 감소_트랜잭션없음_primary() {
+        stockService.decreaseWithoutTx(1L, 1L);
+
+        Assertions.assertThat(primaryQuantity()).isEqualTo(99);
+    }
+
+    private Long primaryQuantity() {
+        return new JdbcTemplate(primaryDataSource).queryForObject("select quantity from stock where id = 1", Long.class);
+    }
+}